@@ -1,17 +1,23 @@
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * This class is part of the "World of Zuul" application. 
  * "World of Zuul" is a very simple, text based adventure game.  
  *
  * This class holds information about a command that was issued by the user.
- * A command currently consists of two parts: a CommandWord and a string
- * (for example, if the command was "take map", then the two parts
- * are TAKE and "map").
+ * A command consists of a CommandWord and the words that follow it: a list
+ * of objects (or "all"), and optionally a preposition with an indirect
+ * object. For example, if the command was "take key and map from table",
+ * the parts are TAKE, the objects "key" and "map", the preposition "from"
+ * and the indirect object "table".
  * 
  * The way this is used is: Commands are already checked for being valid
  * command words. If the user entered an invalid command (a word that is not
  * known) then the CommandWord is UNKNOWN.
  *
- * If the command had only one word, then the second word is <null>.
+ * The second word is the first object ("all" for "take all"). If the
+ * command had only one word, then the second word is <null>.
  * 
  * @author  Michael Kölling and David J. Barnes
  * @version 2016.02.29
@@ -21,6 +27,10 @@ public class Command
 {
     private CommandWord commandWord;
     private String secondWord;
+    private List<String> objects;
+    private boolean all;
+    private String preposition;
+    private String indirectObject;
 
     /**
      * Create a command object. First and second words must be supplied, but
@@ -33,6 +43,34 @@ public class Command
     {
         this.commandWord = commandWord;
         this.secondWord = secondWord;
+        this.objects = new ArrayList<>();
+        if (secondWord != null) {
+            objects.add(secondWord);
+        }
+    }
+
+    /**
+     * Create a command object with all its parts.
+     * @param commandWord The CommandWord. UNKNOWN if the command word
+     *                  was not recognised.
+     * @param objects The objects of the command. May be empty.
+     * @param all true if the command was about "all" objects.
+     * @param preposition The preposition, for example "from". May be null.
+     * @param indirectObject The word after the preposition. May be null.
+     */
+    public Command(CommandWord commandWord, List<String> objects, boolean all,
+                   String preposition, String indirectObject)
+    {
+        this.commandWord = commandWord;
+        this.objects = objects;
+        this.all = all;
+        this.preposition = preposition;
+        this.indirectObject = indirectObject;
+        if (all) {
+            secondWord = "all";
+        } else if (!objects.isEmpty()) {
+            secondWord = objects.get(0);
+        }
     }
 
     /**
@@ -53,6 +91,47 @@ public class Command
         return secondWord;
     }
 
+    /**
+     * @return The objects of this command, in the order they were given.
+     * Empty if there were none or the command was about "all".
+     */
+    public List<String> getObjects()
+    {
+        return objects;
+    }
+
+    /**
+     * @return true if the command was about "all" objects.
+     */
+    public boolean isAll()
+    {
+        return all;
+    }
+
+    /**
+     * @return The preposition of this command, or null if there was none.
+     */
+    public String getPreposition()
+    {
+        return preposition;
+    }
+
+    /**
+     * @return The word after the preposition, or null if there was none.
+     */
+    public String getIndirectObject()
+    {
+        return indirectObject;
+    }
+
+    /**
+     * @return true if the command has a preposition and indirect object.
+     */
+    public boolean hasIndirectObject()
+    {
+        return (indirectObject != null);
+    }
+
     /**
      * @return true if this command was not understood.
      */
@@ -0,0 +1,210 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * This class is part of the "World of Zuul" application. 
+ * "World of Zuul" is a very simple, text based adventure game.
+ * 
+ * The command grammar turns a line of input into a Command. It accepts
+ * commands of the form
+ * 
+ *     verb [objects] [preposition [article] word]
+ * 
+ * where the objects are either "all" or a list of words joined by "and"
+ * or commas, each optionally preceded by an article. For example:
+ * 
+ *     take the key and map
+ *     drop all
+ *     take all from table
+ * 
+ * Words after a complete command are ignored, so "go north now" is the
+ * same as "go north", and "take the" is the same as "take".
+ * 
+ * The grammar is compiled once into a transition table, so parsing a
+ * line is a single pass over its words with one table lookup per word.
+ * 
+ * @author Alejandro Olea
+ * @version 2025.04.02
+ */
+
+public class CommandGrammar
+{
+    // The classes of word the grammar distinguishes between
+    private enum Token { ARTICLE, ALL, AND, PREPOSITION, WORD, END }
+
+    // The states of the recogniser
+    private static final int ERROR = -1;
+    private static final int VERB_READ = 0;
+    private static final int ARTICLE_READ = 1;
+    private static final int OBJECT_READ = 2;
+    private static final int ALL_READ = 3;
+    private static final int AND_READ = 4;
+    private static final int PREPOSITION_READ = 5;
+    private static final int INDIRECT_ARTICLE_READ = 6;
+    private static final int INDIRECT_READ = 7;
+    private static final int ACCEPT = 8;
+    private static final int STATE_COUNT = 9;
+
+    private CommandWords commands;              // the verbs
+    private HashMap<String, Token> vocabulary;  // all other known words
+    private int[][] transitions;                // [state][token] -> state
+
+    /**
+     * Compile the grammar.
+     * @param commands The valid command words.
+     */
+    public CommandGrammar(CommandWords commands)
+    {
+        this.commands = commands;
+
+        vocabulary = new HashMap<>();
+        for (String article : new String[] { "the", "a", "an" }) {
+            vocabulary.put(article, Token.ARTICLE);
+        }
+        for (String preposition : new String[] { "in", "into", "on", "from", "to", "with" }) {
+            vocabulary.put(preposition, Token.PREPOSITION);
+        }
+        vocabulary.put("all", Token.ALL);
+        vocabulary.put("and", Token.AND);
+        vocabulary.put(",", Token.AND);
+
+        transitions = new int[STATE_COUNT][Token.values().length];
+        for (int[] row : transitions) {
+            Arrays.fill(row, ERROR);
+        }
+        addTransition(VERB_READ, Token.END, ACCEPT);
+        addTransition(VERB_READ, Token.ARTICLE, ARTICLE_READ);
+        addTransition(VERB_READ, Token.WORD, OBJECT_READ);
+        addTransition(VERB_READ, Token.ALL, ALL_READ);
+        addTransition(VERB_READ, Token.PREPOSITION, PREPOSITION_READ);
+        addTransition(ARTICLE_READ, Token.WORD, OBJECT_READ);
+        addTransition(OBJECT_READ, Token.END, ACCEPT);
+        addTransition(OBJECT_READ, Token.AND, AND_READ);
+        addTransition(OBJECT_READ, Token.PREPOSITION, PREPOSITION_READ);
+        addTransition(AND_READ, Token.ARTICLE, ARTICLE_READ);
+        addTransition(AND_READ, Token.WORD, OBJECT_READ);
+        addTransition(ALL_READ, Token.END, ACCEPT);
+        addTransition(ALL_READ, Token.PREPOSITION, PREPOSITION_READ);
+        addTransition(PREPOSITION_READ, Token.ARTICLE, INDIRECT_ARTICLE_READ);
+        addTransition(PREPOSITION_READ, Token.WORD, INDIRECT_READ);
+        addTransition(INDIRECT_ARTICLE_READ, Token.WORD, INDIRECT_READ);
+        addTransition(INDIRECT_READ, Token.END, ACCEPT);
+    }
+
+    /**
+     * Add one transition to the table.
+     */
+    private void addTransition(int from, Token token, int to)
+    {
+        transitions[from][token.ordinal()] = to;
+    }
+
+    /**
+     * Parse a line of input.
+     * @param inputLine The line typed by the user.
+     * @return The command. Its command word is UNKNOWN if the line does not
+     *         start with a known command word.
+     */
+    public Command parse(String inputLine)
+    {
+        int length = inputLine.length();
+        int position = skipSpaces(inputLine, 0);
+        int end = endOfWord(inputLine, position);
+        if (position == end) {
+            return new Command(CommandWord.UNKNOWN, null);
+        }
+        CommandWord commandWord = commands.getCommandWord(inputLine.substring(position, end));
+        if (commandWord == CommandWord.UNKNOWN) {
+            return new Command(CommandWord.UNKNOWN, null);
+        }
+
+        List<String> objects = new ArrayList<>();
+        boolean all = false;
+        String preposition = null;
+        String indirectObject = null;
+
+        // The longest complete command seen so far, starting with the
+        // verb on its own
+        int acceptedObjects = 0;
+        boolean acceptedAll = false;
+        String acceptedPreposition = null;
+        String acceptedIndirectObject = null;
+
+        int state = VERB_READ;
+        position = skipSpaces(inputLine, end);
+        while (position < length) {
+            end = endOfWord(inputLine, position);
+            String word = inputLine.substring(position, end);
+            Token token = vocabulary.getOrDefault(word, Token.WORD);
+            int next = transitions[state][token.ordinal()];
+            if (next == ERROR) {
+                break;
+            }
+            state = next;
+            switch (token) {
+                case WORD:
+                    if (state == OBJECT_READ) {
+                        objects.add(word);
+                    } else {
+                        indirectObject = word;
+                    }
+                    break;
+
+                case ALL:
+                    all = true;
+                    break;
+
+                case PREPOSITION:
+                    preposition = word;
+                    break;
+
+                default:
+                    break;
+            }
+            if (transitions[state][Token.END.ordinal()] == ACCEPT) {
+                acceptedObjects = objects.size();
+                acceptedAll = all;
+                acceptedPreposition = preposition;
+                acceptedIndirectObject = indirectObject;
+            }
+            position = skipSpaces(inputLine, end);
+        }
+
+        if (position >= length && transitions[state][Token.END.ordinal()] == ACCEPT) {
+            return new Command(commandWord, objects, all, preposition, indirectObject);
+        }
+        // Ignore whatever follows the complete command
+        return new Command(commandWord, objects.subList(0, acceptedObjects), acceptedAll,
+                           acceptedPreposition, acceptedIndirectObject);
+    }
+
+    /**
+     * @return The index of the first character at or after position
+     *         that is not white space.
+     */
+    private static int skipSpaces(String line, int position)
+    {
+        while (position < line.length() && Character.isWhitespace(line.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * A word ends at white space or a comma. A comma is a word by itself.
+     * @return The index just after the word starting at position.
+     */
+    private static int endOfWord(String line, int position)
+    {
+        if (position < line.length() && line.charAt(position) == ',') {
+            return position + 1;
+        }
+        while (position < line.length() && !Character.isWhitespace(line.charAt(position))
+               && line.charAt(position) != ',') {
+            position++;
+        }
+        return position;
+    }
+}
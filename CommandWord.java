@@ -10,7 +10,7 @@ public enum CommandWord
 {
     // A value for each command word along with its
     // corresponding user interface string.
-    GO("go"), BACK("back"), LOOK("look"), INSPECT("inspect"), TAKE("take"), DROP("drop"), QUIT("quit"), HELP("help"), UNKNOWN("?");
+    GO("go"), BACK("back"), LOOK("look"), MAP("map"), INSPECT("inspect"), TAKE("take"), DROP("drop"), WHERE("where"), UNDO("undo"), REDO("redo"), QUIT("quit"), HELP("help"), UNKNOWN("?");
     
     // The command string.
     private String commandString;
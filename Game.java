@@ -1,3 +1,13 @@
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  *  This class is the main class of the "World of Zuul" application. 
  *  "World of Zuul" is a very simple, text based adventure game.  Users 
@@ -18,18 +28,100 @@
 
 public class Game 
 {
+    // Pre-encoded fragments of the responses
+    private static final ByteBuffer PICKED_UP = ResponseWriter.encode("You picked up the ");
+    private static final ByteBuffer DROPPED = ResponseWriter.encode("You dropped the ");
+    private static final ByteBuffer END_OF_SENTENCE = ResponseWriter.encode(".\n");
+    private static final ByteBuffer NO_SUCH_ITEM = ResponseWriter.encode("There is no such item here.\n");
+    private static final ByteBuffer NOT_CARRIED = ResponseWriter.encode("You don't have that item.\n");
+    private static final ByteBuffer NO_DOOR = ResponseWriter.encode("There is no door!\n");
+    private static final ByteBuffer WENT_BACK = ResponseWriter.encode("You go back ");
+    private static final ByteBuffer NO_WAY_BACK = ResponseWriter.encode("There is no room to go back to\n\n");
+
+    // How far around the player the map reaches, unless asked otherwise
+    private static final int MAP_RADIUS = 2;
+    private static final int MAX_MAP_RADIUS = 10;
+    // While the player is idle, the NPCs act this often (in milliseconds)
+    private static final long IDLE_TICK_MILLIS = 10_000;
+    // A player idle for this long (in milliseconds) leaves the game
+    private static final long DISCONNECT_MILLIS = 10 * 60_000;
+
+    // A made-up session that visits every kind of command, used to warm
+    // up the game before the first player arrives
+    private static final String[] WARM_UP_SCRIPT = {
+        "look", "help", "inspect", "map", "go north", "go east",
+        "take ticket and wallet", "where wallet", "take the map",
+        "go west", "back", "back", "go south", "take all", "drop all",
+        "undo", "redo", "go up", "dance", "take", "drop the stapler",
+        "map 3", "take all from table", "quit now", "quit"
+    };
+    private static final int WARM_UP_ROUNDS = 100;
+    // Enough extra NPCs in each warm-up game to use parallel planning
+    private static final int WARM_UP_NPCS = 2048;
+
     private Parser parser;
     private Room currentRoom;
     private Player player;
+    private NpcSimulation npcs;
+    private ItemIndex itemIndex;
+    private UndoLog undoLog;
+    private MapLayout mapLayout;
+    private StartupProfile profile;  // null unless startup is being profiled
+    private GameEventBus events;
+    private GameStatistics statistics;
+    private ResponseWriter out;
         
     /**
      * Create the game and initialise its internal map.
      */
     public Game() 
     {
+        this(null);
+    }
+
+    /**
+     * Create the game and initialise its internal map, timing each part.
+     * @param profile The profile to record the timings in. May be null.
+     */
+    public Game(StartupProfile profile)
+    {
+        this(profile, System.in);
+    }
+
+    /**
+     * Create the game and initialise its internal map, timing each part.
+     * @param profile The profile to record the timings in. May be null.
+     * @param in The stream the player's commands are read from.
+     */
+    private Game(StartupProfile profile, InputStream in)
+    {
+        this.profile = profile;
+        npcs = new NpcSimulation();
+        itemIndex = new ItemIndex();
+        undoLog = new UndoLog();
         createRooms();
-        parser = new Parser();
-        player = new Player(currentRoom);   // Create a player with the starting room
+        mark("build rooms");
+        mapLayout = new MapLayout(currentRoom);
+        mark("lay out map");
+        parser = new Parser(in);
+        mark("compile parser");
+        out = new ResponseWriter(Channels.newChannel(System.out));
+        player = new Player(currentRoom, itemIndex, undoLog);   // Create a player with the starting room
+        statistics = new GameStatistics();
+        events = new GameEventBus(1024, WaitStrategy.SLEEPING);
+        events.addConsumer(statistics);
+        mark("player and events");
+    }
+
+    /**
+     * Record in the startup profile, if there is one, that a phase
+     * of starting up has finished.
+     */
+    private void mark(String phase)
+    {
+        if (profile != null) {
+            profile.mark(phase);
+        }
     }
 
     /**
@@ -40,14 +132,14 @@ public class Game
         Room outside, theater, pub, lab, office, overlook, arcade, garage;
       
         // create the rooms
-        outside = new Room("outside the main entrance of the university");
-        theater = new Room("in a lecture theater");
-        pub = new Room("in the campus pub");
-        lab = new Room("in a computing lab");
-        office = new Room("in the computing admin office");
-        overlook = new Room("in the scenic overlook");
-        arcade = new Room("in the campus arcade");
-        garage = new Room("in the parking garage");
+        outside = new Room("outside the main entrance of the university", itemIndex, undoLog);
+        theater = new Room("in a lecture theater", itemIndex, undoLog);
+        pub = new Room("in the campus pub", itemIndex, undoLog);
+        lab = new Room("in a computing lab", itemIndex, undoLog);
+        office = new Room("in the computing admin office", itemIndex, undoLog);
+        overlook = new Room("in the scenic overlook", itemIndex, undoLog);
+        arcade = new Room("in the campus arcade", itemIndex, undoLog);
+        garage = new Room("in the parking garage", itemIndex, undoLog);
         
         // initialise room exits
         outside.setExit("east", theater);
@@ -95,6 +187,11 @@ public class Game
         
         office.addItem(new Item("stapler", "A silver handheld stapler", 0.5));
         office.addItem(new Item("keyboard", "An ergonomic keyboard", 1.8));
+        
+        // Add the non-player characters
+        npcs.addNpc(new Npc("The janitor", lab, itemIndex, undoLog));
+        npcs.addNpc(new Npc("A student", pub, itemIndex, undoLog));
+        npcs.addNpc(new Npc("The professor", theater, itemIndex, undoLog));
 
         currentRoom = outside;  // start game outside
     }
@@ -104,19 +201,95 @@ public class Game
      */
     public void play() 
     {            
+        events.start();
         printWelcome();
 
         // Enter the main command loop.  Here we repeatedly read commands and
         // execute them until the game is over.
                 
         boolean finished = false;
+        boolean first = true;
         while (! finished) {
-            Command command = parser.getCommand();
-            finished = processCommand(command);
+            Command command = waitForCommand();
+            long start = System.nanoTime();
+            finished = runCommand(command);
+            if (first && profile != null) {
+                profile.reportCommand("first command", System.nanoTime() - start, System.err);
+            }
+            first = false;
         }
+        events.shutdown();
+        System.out.println("You walked " + statistics.getCount(GameEventType.MOVED)
+                           + " times and picked up " + statistics.getCount(GameEventType.TOOK)
+                           + " items.");
+        printNpcMetrics();
         System.out.println("Thank you for playing.  Good bye.");
     }
 
+    /**
+     * Run one command and then let the NPCs act.
+     * @param command The command to run.
+     * @return true If the command ends the game, false otherwise.
+     */
+    private boolean runCommand(Command command)
+    {
+        CommandWord commandWord = command.getCommandWord();
+        // Undo goes back to before the player's last action. A step is
+        // only kept if the action changed something.
+        if (commandWord == CommandWord.GO || commandWord == CommandWord.BACK
+            || commandWord == CommandWord.TAKE || commandWord == CommandWord.DROP) {
+            undoLog.startStep();
+        }
+        boolean finished = processCommand(command);
+        undoLog.endStep();
+        // Undo and redo move through time instead of letting it pass, and
+        // time stands still until the player acts again after an undo
+        if (!finished && commandWord != CommandWord.UNDO && commandWord != CommandWord.REDO
+            && !undoLog.canRedo()) {
+            updateNpcs();
+        }
+        return finished;
+    }
+
+    /**
+     * Wait for the player's next command. While the player is idle the
+     * NPCs carry on, and after a long time the player is made to quit.
+     * @return The command.
+     */
+    private Command waitForCommand()
+    {
+        parser.showPrompt();
+        long promptTime = System.nanoTime();
+        long nextTickMillis = IDLE_TICK_MILLIS;
+        Command command = parser.pollCommand(IDLE_TICK_MILLIS);
+        while (command == null) {
+            if (Thread.currentThread().isInterrupted()) {
+                // Nobody will be able to type anything any more
+                return new Command(CommandWord.QUIT, null);
+            }
+            long idleMillis = (System.nanoTime() - promptTime) / 1_000_000;
+            if (idleMillis >= DISCONNECT_MILLIS) {
+                System.out.println();
+                System.out.println("You have been idle for too long.");
+                return new Command(CommandWord.QUIT, null);
+            }
+            if (idleMillis >= nextTickMillis) {
+                nextTickMillis += IDLE_TICK_MILLIS;
+                List<String> messages = undoLog.canRedo() ? List.of() : npcs.tick(currentRoom);
+                if (!messages.isEmpty()) {
+                    System.out.println();
+                    for (String message : messages) {
+                        System.out.println(message);
+                    }
+                    parser.showPrompt();
+                }
+            }
+            long waitMillis = Math.min(nextTickMillis, DISCONNECT_MILLIS) - idleMillis;
+            command = parser.pollCommand(Math.max(1, waitMillis));
+        }
+        return command;
+    }
+
     /**
      * Print out the opening message for the player.
      */
@@ -127,7 +300,7 @@ public class Game
         System.out.println("World of Zuul is a new, incredibly boring adventure game.");
         System.out.println("Type '" + CommandWord.HELP + "' if you need help.");
         System.out.println();
-        System.out.println(currentRoom.getLongDescription());
+        out.write(currentRoom.getEncodedLongDescription());
     }
 
     /**
@@ -166,12 +339,28 @@ public class Game
                 dropItem(command);
                 break;
                 
+            case WHERE:
+                whereIs(command);
+                break;
+                
+            case MAP:
+                showMap(command);
+                break;
+                
+            case UNDO:
+                undo();
+                break;
+                
+            case REDO:
+                redo();
+                break;
+                
             case LOOK:
                 look();
                 break;
                 
             case INSPECT:
-                System.out.println(currentRoom.inspectItems());
+                out.write(currentRoom.getEncodedItems());
                 break;
 
             case QUIT:
@@ -181,6 +370,26 @@ public class Game
         return wantToQuit;
     }
 
+    /**
+     * Let every NPC act once and tell the player what they saw.
+     */
+    private void updateNpcs()
+    {
+        for (String message : npcs.tick(currentRoom)) {
+            System.out.println(message);
+        }
+    }
+
+    /**
+     * Print how long the NPC ticks took.
+     */
+    private void printNpcMetrics()
+    {
+        System.out.printf("NPC ticks: %d, last %.3f ms, average %.3f ms, longest %.3f ms%n",
+                          npcs.getTickCount(), npcs.getLastTickNanos() / 1e6,
+                          npcs.getAverageTickNanos() / 1e6, npcs.getMaxTickNanos() / 1e6);
+    }
+
     // implementations of user commands:
 
     /**
@@ -202,7 +411,7 @@ public class Game
      */
     private void look()
     {
-        System.out.println(currentRoom.getLongDescription());
+        out.write(currentRoom.getEncodedLongDescription());
     }
 
     /** 
@@ -218,11 +427,12 @@ public class Game
         String direction = command.getSecondWord();
         Room nextRoom = currentRoom.getExit(direction);
         if (nextRoom == null) {
-            System.out.println("There is no door!");
+            out.write(NO_DOOR);
         } else {
             player.moveToRoom(nextRoom);  // Update player's room
             currentRoom = nextRoom;       // Keep Game's currentRoom in sync
-            System.out.println(currentRoom.getLongDescription());
+            events.publish(GameEventType.MOVED, currentRoom, null);
+            out.write(currentRoom.getEncodedLongDescription());
         }
     }
     
@@ -231,12 +441,19 @@ public class Game
      */
     private void goBack()
     {
-        player.goBack();
+        if (!player.goBack()) {
+            out.write(NO_WAY_BACK);
+            out.write(currentRoom.getEncodedLongDescription());
+            return;
+        }
         currentRoom = player.getCurrentRoom();  // Sync room
+        events.publish(GameEventType.WENT_BACK, currentRoom, null);
+        out.write(currentRoom.getEncodedLongDescription(WENT_BACK));
     }
 
     /**
-     * Allow the player to take an item from the current room.
+     * Allow the player to take items from the current room: one item,
+     * several ("take key and map") or everything ("take all").
      * If no item exists or no item name is specified, prints an error message.
      */
     private void takeItem(Command command)
@@ -245,20 +462,47 @@ public class Game
             System.out.println("Take what?");
             return;
         }
+        if (command.hasIndirectObject()) {
+            System.out.println("You can't take things " + command.getPreposition()
+                               + " the " + command.getIndirectObject() + ".");
+            return;
+        }
         
-        String itemName = command.getSecondWord();
-        Item item = player.getCurrentRoom().removeItem(itemName);
+        if (command.isAll()) {
+            List<Item> items = new ArrayList<>(currentRoom.getItems());
+            if (items.isEmpty()) {
+                System.out.println("There is nothing here to take.");
+            }
+            for (Item item : items) {
+                currentRoom.removeItem(item);
+                takeItem(item);
+            }
+            return;
+        }
         
-        if (item != null) {
-            player.takeItem(item);
-            System.out.println("You picked up the " + item.getName() + ".");
-        } else {
-            System.out.println("There is no such item here.");
+        for (String itemName : command.getObjects()) {
+            Item item = currentRoom.removeItem(itemName);
+            if (item != null) {
+                takeItem(item);
+            } else {
+                out.write(NO_SUCH_ITEM);
+            }
         }
     }
     
     /**
-     * Allows the player to drop an item
+     * Put an item that has been removed from the room into the
+     * player's inventory.
+     */
+    private void takeItem(Item item)
+    {
+        player.takeItem(item);
+        events.publish(GameEventType.TOOK, currentRoom, item);
+        out.write(PICKED_UP, item.getEncodedName(), END_OF_SENTENCE);
+    }
+    
+    /**
+     * Allows the player to drop one item, several or all of them
      */
     private void dropItem(Command command)
     {
@@ -266,19 +510,44 @@ public class Game
             System.out.println("Drop what?");
             return;
         }
+        if (command.hasIndirectObject()) {
+            System.out.println("You can't drop things " + command.getPreposition()
+                               + " the " + command.getIndirectObject() + ".");
+            return;
+        }
         
-        String itemName = command.getSecondWord();
-        Item item = findItemInInventory(itemName);
+        if (command.isAll()) {
+            List<Item> items = new ArrayList<>(player.getInventory());
+            if (items.isEmpty()) {
+                System.out.println("You are not carrying anything.");
+            }
+            for (Item item : items) {
+                dropItem(item);
+            }
+            return;
+        }
         
-        if (item != null) {
-            player.dropItem(item);
-            player.getCurrentRoom().addItem(item);
-            System.out.println("You dropped the " + item.getName() + ".");
-        } else {
-            System.out.println("You don't have that item.");
+        for (String itemName : command.getObjects()) {
+            Item item = findItemInInventory(itemName);
+            if (item != null) {
+                dropItem(item);
+            } else {
+                out.write(NOT_CARRIED);
+            }
         }
     }
     
+    /**
+     * Move an item from the player's inventory into the current room.
+     */
+    private void dropItem(Item item)
+    {
+        player.dropItem(item);
+        currentRoom.addItem(item);
+        events.publish(GameEventType.DROPPED, currentRoom, item);
+        out.write(DROPPED, item.getEncodedName(), END_OF_SENTENCE);
+    }
+    
     /**
      * Find an item in the player's inventory
      */
@@ -292,6 +561,79 @@ public class Game
         return null;
     }
 
+    /**
+     * Draw a map of the rooms around the player that they have explored.
+     * An optional second word gives how far the map reaches, e.g. "map 3".
+     */
+    private void showMap(Command command)
+    {
+        int radius = MAP_RADIUS;
+        if (command.hasSecondWord()) {
+            try {
+                radius = Integer.parseInt(command.getSecondWord());
+            }
+            catch (NumberFormatException e) {
+                radius = -1;
+            }
+            if (radius < 1 || radius > MAX_MAP_RADIUS) {
+                System.out.println("The map reaches from 1 to " + MAX_MAP_RADIUS + " rooms away.");
+                return;
+            }
+        }
+        System.out.print(mapLayout.render(currentRoom, radius, player.getVisitedRooms()));
+        System.out.println("[*] you are here   [?] not explored yet");
+    }
+
+    /**
+     * Undo the player's last action, and whatever the NPCs did since.
+     */
+    private void undo()
+    {
+        if (!undoLog.undo()) {
+            System.out.println("There is nothing to undo.");
+            return;
+        }
+        currentRoom = player.getCurrentRoom();  // Sync room
+        System.out.println("Time runs backwards...");
+        out.write(currentRoom.getEncodedLongDescription());
+    }
+
+    /**
+     * Redo the last action that was undone. Once the player does
+     * something else that changes the world, the undone actions are
+     * forgotten.
+     */
+    private void redo()
+    {
+        if (!undoLog.redo()) {
+            System.out.println("There is nothing to redo.");
+            return;
+        }
+        currentRoom = player.getCurrentRoom();  // Sync room
+        System.out.println("Time runs forwards again...");
+        out.write(currentRoom.getEncodedLongDescription());
+    }
+
+    /**
+     * Tell where every item with the given name is in the world.
+     */
+    private void whereIs(Command command)
+    {
+        if (!command.hasSecondWord()) {
+            System.out.println("Where is what?");
+            return;
+        }
+        
+        String itemName = command.getSecondWord();
+        List<ItemHolder> holders = itemIndex.findHolders(itemName);
+        if (holders.isEmpty()) {
+            System.out.println("Nobody knows where the " + itemName + " is.");
+        }
+        for (ItemHolder holder : holders) {
+            System.out.println("The " + itemName + " is " + holder.getHolderDescription() + ".");
+        }
+    }
+
     /** 
      * "Quit" was entered. Check the rest of the command to see
      * whether we really quit the game.
@@ -303,16 +645,56 @@ public class Game
             System.out.println("Quit what?");
             return false;
         } else {
+            events.publish(GameEventType.QUIT, currentRoom, null);
             return true;  // signal that we want to quit
         }
     }
     
+    /**
+     * Play through the warm-up script many times, each time in a new
+     * game, so that the JIT compiler has compiled the command paths
+     * before a real player arrives. Each game is played just like a real
+     * one: the script is typed in through the input queue, the event bus
+     * runs, and there are enough NPCs for the parallel NPC planning to be
+     * used. Nothing is printed.
+     * @param rounds How many times to play the script.
+     */
+    public static void warmUp(int rounds)
+    {
+        byte[] script = (String.join("\n", WARM_UP_SCRIPT) + "\n").getBytes(Charset.defaultCharset());
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            for (int i = 0; i < rounds; i++) {
+                Game game = new Game(null, new ByteArrayInputStream(script));
+                for (int n = 0; n < WARM_UP_NPCS; n++) {
+                    game.npcs.addNpc(new Npc("A visitor", game.currentRoom, game.itemIndex, game.undoLog));
+                }
+                game.play();
+            }
+        }
+        finally {
+            System.setOut(console);
+        }
+    }
+    
     /**
      * Main method to run the game standalone.
-     * @param args Command-line arguments (not used).
+     * @param args Command-line arguments. With "--warm", the game warms
+     *             up before starting and reports how long each phase of
+     *             starting up took on the error output.
      */
     public static void main(String[] args) 
     {
+        if (args.length > 0 && args[0].equals("--warm")) {
+            StartupProfile profile = new StartupProfile();
+            warmUp(WARM_UP_ROUNDS);
+            profile.mark("warm up");
+            Game game = new Game(profile);
+            profile.report(System.err);
+            game.play();
+            return;
+        }
         Game game = new Game();  // Create a new game instance
         game.play();             // Start the game
     }
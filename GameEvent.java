@@ -0,0 +1,68 @@
+/**
+ * This class is part of the "World of Zuul" application. 
+ * "World of Zuul" is a very simple, text based adventure game.
+ * 
+ * A GameEvent is one slot of the event bus ring buffer. The slots are
+ * created once when the bus is made and then filled in again for every
+ * new event, so publishing an event does not create any objects.
+ * 
+ * Consumers must copy anything they want to keep: the slot will be
+ * reused once every consumer has moved past it.
+ * 
+ * @author Alejandro Olea
+ * @version 2025.04.02
+ */
+
+public class GameEvent
+{
+    private GameEventType type;
+    private Room room;
+    private Item item;
+    private long timestamp;
+
+    /**
+     * Fill in this slot with a new event.
+     * @param type The kind of event.
+     * @param room The room the player is in after the event.
+     * @param item The item taken or dropped. May be null.
+     */
+    void set(GameEventType type, Room room, Item item)
+    {
+        this.type = type;
+        this.room = room;
+        this.item = item;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * @return The kind of event.
+     */
+    public GameEventType getType()
+    {
+        return type;
+    }
+
+    /**
+     * @return The room the player is in after the event.
+     */
+    public Room getRoom()
+    {
+        return room;
+    }
+
+    /**
+     * @return The item taken or dropped, or null for other events.
+     */
+    public Item getItem()
+    {
+        return item;
+    }
+
+    /**
+     * @return When the event happened, in milliseconds since the epoch.
+     */
+    public long getTimestamp()
+    {
+        return timestamp;
+    }
+}
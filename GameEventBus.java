@@ -0,0 +1,198 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is part of the "World of Zuul" application. 
+ * "World of Zuul" is a very simple, text based adventure game.
+ * 
+ * The game event bus lets logging, statistics and similar side effects
+ * happen away from the command path. Events are written into a ring
+ * buffer of preallocated slots. Every consumer has its own thread and
+ * its own position in the buffer, so each one reads at its own pace and
+ * handles whatever has piled up in one batch.
+ * 
+ * There is a single publisher (the game loop). Publishing claims the
+ * next slot, fills it in and moves the cursor on; it only has to wait
+ * if the slowest consumer is a whole buffer behind.
+ * 
+ * @author Alejandro Olea
+ * @version 2025.04.02
+ */
+
+public class GameEventBus
+{
+    private GameEvent[] slots;
+    private int mask;                  // slots.length - 1, for fast modulo
+    private WaitStrategy waitStrategy;
+    private AtomicLong cursor;         // sequence of the last published event
+    private long gatingSequence;       // slowest consumer, as last read by publish
+    private List<Consumer> consumers;
+    private volatile boolean running;
+
+    /**
+     * Create an event bus.
+     * @param size The number of slots. Must be a power of two.
+     * @param waitStrategy How threads wait when there is nothing to do.
+     */
+    public GameEventBus(int size, WaitStrategy waitStrategy)
+    {
+        if (size < 1 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Size must be a power of two: " + size);
+        }
+        slots = new GameEvent[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new GameEvent();
+        }
+        mask = size - 1;
+        this.waitStrategy = waitStrategy;
+        cursor = new AtomicLong(-1);
+        gatingSequence = -1;
+        consumers = new ArrayList<>();
+    }
+
+    /**
+     * Add a consumer. All consumers must be added before start is called.
+     * @param handler The handler to call for every event.
+     */
+    public void addConsumer(GameEventHandler handler)
+    {
+        if (running) {
+            throw new IllegalStateException("Consumers must be added before start");
+        }
+        consumers.add(new Consumer(handler));
+    }
+
+    /**
+     * Start a thread for every consumer.
+     */
+    public void start()
+    {
+        running = true;
+        for (Consumer consumer : consumers) {
+            consumer.thread.start();
+        }
+    }
+
+    /**
+     * Publish an event to all consumers.
+     * @param type The kind of event.
+     * @param room The room the player is in after the event.
+     * @param item The item taken or dropped. May be null.
+     */
+    public void publish(GameEventType type, Room room, Item item)
+    {
+        long next = cursor.get() + 1;
+        // Don't overwrite a slot that a consumer has not read yet. The
+        // consumers are only looked at again when the claim would wrap
+        // past where the slowest one was last seen. Yield rather than
+        // spin so that the consumers get a chance to run.
+        if (next - slots.length > gatingSequence) {
+            gatingSequence = getMinimumSequence();
+            while (next - slots.length > gatingSequence) {
+                Thread.yield();
+                gatingSequence = getMinimumSequence();
+            }
+        }
+        slots[(int) next & mask].set(type, room, item);
+        cursor.lazySet(next);
+    }
+
+    /**
+     * Wait for the consumers to handle every published event, then
+     * stop their threads.
+     */
+    public void shutdown()
+    {
+        while (getMinimumSequence() < cursor.get()) {
+            Thread.yield();
+        }
+        running = false;
+        for (Consumer consumer : consumers) {
+            try {
+                consumer.thread.join();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return The sequence of the last event read by the slowest consumer
+     *         that is still running.
+     */
+    private long getMinimumSequence()
+    {
+        long minimum = cursor.get();
+        for (Consumer consumer : consumers) {
+            minimum = Math.min(minimum, consumer.sequence.get());
+        }
+        return minimum;
+    }
+
+    /**
+     * One consumer: a handler, the thread that calls it and the sequence
+     * of the last event it has handled.
+     */
+    private class Consumer implements Runnable
+    {
+        private GameEventHandler handler;
+        private AtomicLong sequence;
+        private Thread thread;
+
+        /**
+         * Create a consumer that has not read any event yet.
+         * @param handler The handler to call for every event.
+         */
+        Consumer(GameEventHandler handler)
+        {
+            this.handler = handler;
+            sequence = new AtomicLong(-1);
+            thread = new Thread(this, "game-event-consumer");
+            thread.setDaemon(true);
+        }
+
+        /**
+         * Handle events in batches until the bus is shut down.
+         */
+        @Override
+        public void run()
+        {
+            try {
+                long next = sequence.get() + 1;
+                while (running) {
+                    long available = cursor.get();
+                    if (available < next) {
+                        waitStrategy.idle();
+                        continue;
+                    }
+                    for (long s = next; s <= available; s++) {
+                        handle(slots[(int) s & mask], s, s == available);
+                    }
+                    sequence.lazySet(available);
+                    next = available + 1;
+                }
+            }
+            finally {
+                // A consumer that has stopped must not hold up the publisher
+                sequence.set(Long.MAX_VALUE);
+            }
+        }
+
+        /**
+         * Pass one event to the handler. If the handler fails, the failure
+         * is reported and the consumer carries on with the next event.
+         */
+        private void handle(GameEvent event, long s, boolean endOfBatch)
+        {
+            try {
+                handler.onEvent(event, s, endOfBatch);
+            }
+            catch (RuntimeException e) {
+                System.err.println("Event handler failed on event " + s + ": " + e);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+/**
+ * A consumer of events from the game event bus. Each handler is
+ * called on its own thread, in the order the events were published.
+ * 
+ * @author Alejandro Olea
+ * @version 2025.04.02
+ */
+public interface GameEventHandler
+{
+    /**
+     * Handle one event.
+     * @param event The event. Only valid until this method returns.
+     * @param sequence The number of the event, counting from 0.
+     * @param endOfBatch true if this is the last event available for now,
+     *                   a good moment to flush anything batched up.
+     */
+    void onEvent(GameEvent event, long sequence, boolean endOfBatch);
+}
@@ -0,0 +1,19 @@
+/**
+ * The kinds of event published on the game event bus.
+ * 
+ * @author Alejandro Olea
+ * @version 2025.04.02
+ */
+public enum GameEventType
+{
+    // The player walked into another room.
+    MOVED,
+    // The player went back to the previous room.
+    WENT_BACK,
+    // The player picked up an item.
+    TOOK,
+    // The player dropped an item.
+    DROPPED,
+    // The player quit the game.
+    QUIT
+}
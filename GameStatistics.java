@@ -0,0 +1,41 @@
+/**
+ * This class is part of the "World of Zuul" application. 
+ * "World of Zuul" is a very simple, text based adventure game.
+ * 
+ * Counts the events of a game as they come off the event bus.
+ * The counts may only be read once the bus has been shut down.
+ * 
+ * @author Alejandro Olea
+ * @version 2025.04.02
+ */
+
+public class GameStatistics implements GameEventHandler
+{
+    private long[] counts;
+
+    /**
+     * Create statistics with every count at zero.
+     */
+    public GameStatistics()
+    {
+        counts = new long[GameEventType.values().length];
+    }
+
+    /**
+     * Count one event.
+     */
+    @Override
+    public void onEvent(GameEvent event, long sequence, boolean endOfBatch)
+    {
+        counts[event.getType().ordinal()]++;
+    }
+
+    /**
+     * @param type The kind of event.
+     * @return How many events of that kind have been handled.
+     */
+    public long getCount(GameEventType type)
+    {
+        return counts[type.ordinal()];
+    }
+}
@@ -0,0 +1,122 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is part of the "World of Zuul" application. 
+ * "World of Zuul" is a very simple, text based adventure game.
+ * 
+ * The input queue reads lines of input on a thread of its own and keeps
+ * them in a small queue until the game asks for them. The game can then
+ * wait for input with a time limit, and do other things (such as letting
+ * the NPCs act) while the player is idle. Lines typed ahead are kept in
+ * order.
+ * 
+ * The queue has a fixed size. When a player types faster than the game
+ * handles commands and the queue fills up, the reading thread stops
+ * reading until there is room again.
+ * 
+ * @author Alejandro Olea
+ * @version 2025.04.02
+ */
+
+public class InputQueue implements Runnable
+{
+    // Put in the queue when the input has ended. Compared by identity.
+    private static final String END_OF_INPUT = new String("");
+
+    private BufferedReader reader;
+    private BlockingQueue<String> lines;
+    private Thread thread;
+    private boolean ended;    // true once END_OF_INPUT has been taken
+
+    /**
+     * Create an input queue. The reading thread starts when input
+     * is first asked for.
+     * @param in The stream to read lines from.
+     * @param capacity The number of lines that can be typed ahead.
+     */
+    public InputQueue(InputStream in, int capacity)
+    {
+        reader = new BufferedReader(new InputStreamReader(in, Charset.defaultCharset()));
+        lines = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Take the next line of input, waiting for it if necessary.
+     * @param timeout How long to wait, in milliseconds.
+     * @return The line, or null if none came in time or the input has ended.
+     */
+    public String poll(long timeout)
+    {
+        if (ended) {
+            return null;
+        }
+        start();
+        String line;
+        try {
+            line = lines.poll(timeout, TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        if (line == END_OF_INPUT) {
+            ended = true;
+            return null;
+        }
+        return line;
+    }
+
+    /**
+     * @return true if the input has ended and every line has been taken.
+     */
+    public boolean hasEnded()
+    {
+        return ended;
+    }
+
+    /**
+     * Start the reading thread, unless it is already running.
+     */
+    private void start()
+    {
+        if (thread == null) {
+            thread = new Thread(this, "input-reader");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Read lines until the input ends, waiting whenever the queue is full.
+     */
+    @Override
+    public void run()
+    {
+        try {
+            String line = reader.readLine();
+            while (line != null) {
+                lines.put(line);
+                line = reader.readLine();
+            }
+        }
+        catch (IOException e) {
+            // treat a broken input like the end of the input
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            lines.put(END_OF_INPUT);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,5 +1,4 @@
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteBuffer;
 
 /**
  * Class Item - an item in an adventure game.
@@ -17,6 +16,7 @@ public class Item {
     private String name;
     private String description;
     private double weight;
+    private ByteBuffer encodedName;  // the name as UTF-8, for responses
 
     /**
      * Constructs an item with a name, description, and weight.
@@ -28,6 +28,7 @@ public class Item {
         this.name = name;
         this.description = description;
         this.weight = weight;
+        this.encodedName = ResponseWriter.encode(name);
     }
 
     /**
@@ -37,6 +38,13 @@ public class Item {
         return name;
     }
 
+    /**
+     * @return The name of the item, encoded as UTF-8.
+     */
+    public ByteBuffer getEncodedName() {
+        return encodedName;
+    }
+
     /**
      * @return The description of the item.
      */
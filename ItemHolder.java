@@ -0,0 +1,16 @@
+/**
+ * Anything that can hold items: a room, the player or an NPC.
+ * 
+ * @author Alejandro Olea
+ * @version 2025.04.02
+ */
+public interface ItemHolder
+{
+    /**
+     * Describe where an item held by this holder is, in a form that
+     * completes the sentence "The key is ...", for example
+     * "in the campus pub" or "carried by you".
+     * @return The description of this holder.
+     */
+    String getHolderDescription();
+}
@@ -0,0 +1,109 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * This class is part of the "World of Zuul" application. 
+ * "World of Zuul" is a very simple, text based adventure game.
+ * 
+ * The item index knows, for every item in the world, who is holding it.
+ * Rooms, the player and NPCs keep it up to date whenever an item is
+ * added to or removed from them, so finding an item never needs a
+ * search through the whole world.
+ * 
+ * @author Alejandro Olea
+ * @version 2025.04.02
+ */
+
+public class ItemIndex
+{
+    // The current holder of each item
+    private HashMap<Item, ItemHolder> holders;
+    // All items with a given name (usually just one)
+    private HashMap<String, List<Item>> itemsByName;
+
+    /**
+     * Create an empty index.
+     */
+    public ItemIndex()
+    {
+        holders = new HashMap<>();
+        itemsByName = new HashMap<>();
+    }
+
+    /**
+     * Record that an item is now held by a holder.
+     * @param item The item.
+     * @param holder The room, player or NPC now holding the item.
+     */
+    public void put(Item item, ItemHolder holder)
+    {
+        if (holders.put(item, holder) == null) {
+            itemsByName.computeIfAbsent(item.getName(), name -> new ArrayList<>()).add(item);
+        }
+    }
+
+    /**
+     * Record that a holder no longer holds an item. Nothing changes if
+     * the item has already been recorded as held by someone else.
+     * @param item The item.
+     * @param holder The room, player or NPC that let go of the item.
+     */
+    public void remove(Item item, ItemHolder holder)
+    {
+        if (holders.get(item) != holder) {
+            return;
+        }
+        holders.remove(item);
+        List<Item> items = itemsByName.get(item.getName());
+        items.remove(item);
+        if (items.isEmpty()) {
+            itemsByName.remove(item.getName());
+        }
+    }
+
+    /**
+     * @param item The item to look up.
+     * @return The holder of the item, or null if nobody holds it.
+     */
+    public ItemHolder getHolder(Item item)
+    {
+        return holders.get(item);
+    }
+
+    /**
+     * Find who is holding the items with a given name.
+     * @param itemName The name of the item, for example "wallet".
+     * @return The holders, one per item with that name. Empty if
+     *         there is no such item.
+     */
+    public List<ItemHolder> findHolders(String itemName)
+    {
+        List<ItemHolder> result = new ArrayList<>();
+        List<Item> items = itemsByName.get(itemName);
+        if (items != null) {
+            for (Item item : items) {
+                result.add(holders.get(item));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param itemName The name of the item.
+     * @return How many items with this name exist in the world.
+     */
+    public int countItems(String itemName)
+    {
+        List<Item> items = itemsByName.get(itemName);
+        return items == null ? 0 : items.size();
+    }
+
+    /**
+     * @return The number of items in the world.
+     */
+    public int size()
+    {
+        return holders.size();
+    }
+}
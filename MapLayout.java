@@ -0,0 +1,216 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * This class is part of the "World of Zuul" application. 
+ * "World of Zuul" is a very simple, text based adventure game.
+ * 
+ * The map layout gives every room reachable from the starting room a
+ * small number (its id), so that players can remember the rooms they
+ * have visited in a bit set. It also places the rooms on a grid for
+ * drawing, following the compass exits out from the starting room.
+ * The layout is worked out once, when the world is built; drawing a
+ * map then only looks up the grid cells around the player.
+ * 
+ * Exits other than north, south, east and west are not drawn. A room
+ * only reached through other exits, or that would land on a cell
+ * already taken, still has an id but is left off the drawn map.
+ * 
+ * @author Alejandro Olea
+ * @version 2025.04.02
+ */
+
+public class MapLayout
+{
+    // The compass directions and how far each one moves on the grid
+    private static final String[] DIRECTIONS = { "north", "south", "east", "west" };
+    private static final int[] DX = { 0, 0, 1, -1 };
+    private static final int[] DY = { -1, 1, 0, 0 };
+
+    private List<Room> rooms;   // all rooms, by id
+    private HashMap<Long, Room> cells;  // the room in each taken grid cell
+    private int width;          // the number of grid columns
+    private int height;         // the number of grid rows
+    private int[] column;       // the grid column of each room, by id
+    private int[] row;          // the grid row of each room, by id
+
+    /**
+     * Lay out all rooms reachable from a starting room and give them ids.
+     * @param start The room the game starts in.
+     */
+    public MapLayout(Room start)
+    {
+        // Number every reachable room, following exits in any direction
+        rooms = new ArrayList<>();
+        HashSet<Room> numbered = new HashSet<>();
+        ArrayDeque<Room> queue = new ArrayDeque<>();
+        start.setId(0);
+        rooms.add(start);
+        numbered.add(start);
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            Room room = queue.remove();
+            for (Room neighbor : room.getExitRooms()) {
+                if (numbered.add(neighbor)) {
+                    neighbor.setId(rooms.size());
+                    rooms.add(neighbor);
+                    queue.add(neighbor);
+                }
+            }
+        }
+
+        // Place rooms on the grid, following only the compass exits
+        HashMap<Room, int[]> positions = new HashMap<>();
+        HashMap<Long, Room> taken = new HashMap<>();
+        positions.put(start, new int[] { 0, 0 });
+        taken.put(cell(0, 0), start);
+        queue.add(start);
+        int minX = 0, maxX = 0, minY = 0, maxY = 0;
+        while (!queue.isEmpty()) {
+            Room room = queue.remove();
+            int[] position = positions.get(room);
+            for (int d = 0; d < DIRECTIONS.length; d++) {
+                Room neighbor = room.getExit(DIRECTIONS[d]);
+                if (neighbor == null || positions.containsKey(neighbor)) {
+                    continue;
+                }
+                int x = position[0] + DX[d];
+                int y = position[1] + DY[d];
+                if (taken.containsKey(cell(x, y))) {
+                    continue;
+                }
+                positions.put(neighbor, new int[] { x, y });
+                taken.put(cell(x, y), neighbor);
+                queue.add(neighbor);
+                minX = Math.min(minX, x);
+                maxX = Math.max(maxX, x);
+                minY = Math.min(minY, y);
+                maxY = Math.max(maxY, y);
+            }
+        }
+
+        // Only the taken cells are stored, so a long, thin world does not
+        // need a whole rectangle of empty cells
+        cells = new HashMap<>();
+        width = maxX - minX + 1;
+        height = maxY - minY + 1;
+        column = new int[rooms.size()];
+        row = new int[rooms.size()];
+        for (Room room : rooms) {
+            int[] position = positions.get(room);
+            if (position == null) {
+                column[room.getId()] = -1;   // not on the grid
+                row[room.getId()] = -1;
+                continue;
+            }
+            column[room.getId()] = position[0] - minX;
+            row[room.getId()] = position[1] - minY;
+            cells.put(cell(column[room.getId()], row[room.getId()]), room);
+        }
+    }
+
+    /**
+     * @return A single key for a grid cell.
+     */
+    private static long cell(int x, int y)
+    {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @return The number of rooms on the map.
+     */
+    public int getRoomCount()
+    {
+        return rooms.size();
+    }
+
+    /**
+     * Draw the part of the map around a room. Visited rooms are drawn
+     * as [ ], the room the player is in as [*], and rooms next to a
+     * visited room that have not been visited yet as [?].
+     * @param center The room the player is in.
+     * @param radius How many cells to show in each direction.
+     * @param visited The ids of the rooms the player has visited.
+     * @return The map, one line per row.
+     */
+    public String render(Room center, int radius, BitSet visited)
+    {
+        if (center.getId() < 0) {
+            return "You have no idea where you are.\n";
+        }
+        if (column[center.getId()] < 0) {
+            return "This place is not on the map.\n";
+        }
+        int centerX = column[center.getId()];
+        int centerY = row[center.getId()];
+        int fromX = Math.max(0, centerX - radius);
+        int toX = Math.min(width - 1, centerX + radius);
+        int fromY = Math.max(0, centerY - radius);
+        int toY = Math.min(height - 1, centerY + radius);
+
+        StringBuilder map = new StringBuilder();
+        for (int y = fromY; y <= toY; y++) {
+            StringBuilder rooms = new StringBuilder();
+            StringBuilder exits = new StringBuilder();
+            boolean anyRoom = false;
+            boolean anyExit = false;
+            for (int x = fromX; x <= toX; x++) {
+                Room room = shownRoom(x, y, visited);
+                if (room == null) {
+                    rooms.append("   ");
+                } else if (room == center) {
+                    rooms.append("[*]");
+                } else if (visited.get(room.getId())) {
+                    rooms.append("[ ]");
+                } else {
+                    rooms.append("[?]");
+                }
+                anyRoom |= room != null;
+
+                if (x < toX) {
+                    Room east = shownRoom(x + 1, y, visited);
+                    rooms.append(room != null && east != null && room.getExit("east") == east ? '-' : ' ');
+                }
+
+                Room south = y < toY ? shownRoom(x, y + 1, visited) : null;
+                boolean linked = room != null && south != null && room.getExit("south") == south;
+                exits.append(linked ? " | " : "   ");
+                if (x < toX) {
+                    exits.append(' ');
+                }
+                anyExit |= linked;
+            }
+            if (anyRoom) {
+                map.append(rooms.toString().stripTrailing()).append('\n');
+            }
+            if (anyExit) {
+                map.append(exits.toString().stripTrailing()).append('\n');
+            }
+        }
+        return map.toString();
+    }
+
+    /**
+     * A room is shown if it has been visited or is next to a visited room.
+     * @return The room to show in a grid cell, or null if there is none.
+     */
+    private Room shownRoom(int x, int y, BitSet visited)
+    {
+        Room room = cells.get(cell(x, y));
+        if (room == null || visited.get(room.getId())) {
+            return room;
+        }
+        for (String direction : DIRECTIONS) {
+            Room neighbor = room.getExit(direction);
+            if (neighbor != null && neighbor.getId() >= 0 && visited.get(neighbor.getId())) {
+                return room;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,195 @@
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Class Npc - a non-player character that wanders around the world.
+ * 
+ * This class is part of the "World of Zuul" application. 
+ * "World of Zuul" is a very simple, text based adventure game.
+ * 
+ * Every tick an NPC first plans what it wants to do (planAction) and
+ * then does it (applyAction). Planning only reads the world and writes
+ * to the NPC's own fields, so many NPCs can plan at the same time.
+ * Applying changes rooms and must be done one NPC after the other.
+ * 
+ * @author Alejandro Olea
+ * @version 2025.04.02
+ */
+
+public class Npc implements ItemHolder
+{
+    // The most items an NPC will carry around at once
+    private static final int MAX_CARRIED = 2;
+
+    private String name;
+    private Room currentRoom;
+    private PersistentList<Item> inventory;
+    private ItemIndex itemIndex;  // world-wide index of where items are
+    private UndoLog undoLog;      // records changes to the NPC
+
+    // The action chosen in the planning phase and its target
+    private NpcAction plannedAction;
+    private Room plannedRoom;
+    private Item plannedItem;
+
+    /**
+     * Create an NPC in a starting room.
+     * @param name The name of the NPC, for example "The janitor".
+     * @param startingRoom The room the NPC starts in.
+     * @param itemIndex The index to record the NPC's items in.
+     * @param undoLog The log to record changes to the NPC in.
+     */
+    public Npc(String name, Room startingRoom, ItemIndex itemIndex, UndoLog undoLog)
+    {
+        this.name = name;
+        this.currentRoom = startingRoom;
+        this.inventory = PersistentList.empty();
+        this.itemIndex = itemIndex;
+        this.undoLog = undoLog;
+        this.plannedAction = NpcAction.WAIT;
+    }
+
+    /**
+     * @return The name of the NPC.
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * @return The room the NPC is currently in.
+     */
+    public Room getCurrentRoom()
+    {
+        return currentRoom;
+    }
+
+    /**
+     * @return The items the NPC is carrying.
+     */
+    public List<Item> getInventory()
+    {
+        return inventory;
+    }
+
+    /**
+     * @return Where an item held by this NPC is.
+     */
+    @Override
+    public String getHolderDescription()
+    {
+        return "carried by " + name.toLowerCase();
+    }
+
+    /**
+     * Decide what to do this tick. This does not change any room.
+     * @param random The source of randomness for this thread.
+     * @param playerRoom The room the player is in.
+     */
+    public void planAction(Random random, Room playerRoom)
+    {
+        plannedAction = NpcAction.WAIT;
+        plannedRoom = null;
+        plannedItem = null;
+
+        if (currentRoom == playerRoom && random.nextInt(4) == 0) {
+            plannedAction = NpcAction.GREET;
+            return;
+        }
+
+        int roll = random.nextInt(10);
+        if (roll < 5) {
+            plannedRoom = currentRoom.getRandomExit(random);
+            if (plannedRoom != null) {
+                plannedAction = NpcAction.MOVE;
+            }
+        } else if (roll < 7) {
+            if (inventory.size() < MAX_CARRIED) {
+                plannedItem = currentRoom.getRandomItem(random);
+                if (plannedItem != null) {
+                    plannedAction = NpcAction.TAKE;
+                }
+            }
+        } else if (roll == 7) {
+            if (!inventory.isEmpty()) {
+                plannedItem = inventory.get(random.nextInt(inventory.size()));
+                plannedAction = NpcAction.DROP;
+            }
+        }
+    }
+
+    /**
+     * Carry out the planned action. Anything the player would notice
+     * is added to the list of messages.
+     * @param playerRoom The room the player is in.
+     * @param messages The list to add messages for the player to.
+     */
+    public void applyAction(Room playerRoom, List<String> messages)
+    {
+        switch (plannedAction) {
+            case MOVE:
+                if (currentRoom == playerRoom) {
+                    messages.add(name + " leaves.");
+                }
+                // Wandering is not undoable, so it is not logged
+                currentRoom = plannedRoom;
+                if (currentRoom == playerRoom) {
+                    messages.add(name + " arrives.");
+                }
+                break;
+
+            case TAKE:
+                // Another NPC may have taken the item first
+                if (currentRoom.removeItem(plannedItem)) {
+                    changeInventory(inventory.plus(plannedItem));
+                    itemIndex.put(plannedItem, this);
+                    if (currentRoom == playerRoom) {
+                        messages.add(name + " picks up the " + plannedItem.getName() + ".");
+                    }
+                }
+                break;
+
+            case DROP:
+                changeInventory(inventory.minus(plannedItem));
+                itemIndex.remove(plannedItem, this);
+                currentRoom.addItem(plannedItem);
+                if (currentRoom == playerRoom) {
+                    messages.add(name + " drops the " + plannedItem.getName() + ".");
+                }
+                break;
+
+            case GREET:
+                messages.add(name + " waves at you.");
+                break;
+
+            case WAIT:
+                break;
+        }
+    }
+
+    /**
+     * Change the items the NPC is carrying, recording the change so that
+     * it can be undone. Only items are logged: the items of rooms and
+     * NPCs have to be undone together to stay consistent, but where the
+     * NPCs wander is not part of the player's undo history.
+     */
+    private void changeInventory(PersistentList<Item> newInventory)
+    {
+        PersistentList<Item> oldInventory = inventory;
+        inventory = newInventory;
+        undoLog.record(() -> restoreInventory(oldInventory),
+                       () -> restoreInventory(newInventory));
+    }
+
+    /**
+     * Put back an earlier or later inventory, on undo or redo.
+     */
+    private void restoreInventory(PersistentList<Item> items)
+    {
+        inventory = items;
+        for (Item item : items) {
+            itemIndex.put(item, this);
+        }
+    }
+}
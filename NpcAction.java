@@ -0,0 +1,20 @@
+/**
+ * The actions a non-player character can choose during one tick
+ * of the simulation.
+ * 
+ * @author Alejandro Olea
+ * @version 2025.04.02
+ */
+public enum NpcAction
+{
+    // Do nothing this tick.
+    WAIT,
+    // Walk through a random exit of the current room.
+    MOVE,
+    // Pick up an item lying in the current room.
+    TAKE,
+    // Put down one of the carried items.
+    DROP,
+    // Say hello to the player, who is in the same room.
+    GREET
+}
@@ -0,0 +1,162 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * This class is part of the "World of Zuul" application. 
+ * "World of Zuul" is a very simple, text based adventure game.
+ * 
+ * The NPC simulation holds all non-player characters and moves them
+ * forward one tick at a time. A tick has two phases:
+ * 
+ *  1. Plan: the NPC array is split into one partition per processor and
+ *     the partitions plan their actions in parallel. Planning only reads
+ *     the rooms, so the threads never get in each other's way.
+ *  2. Apply: the planned actions are carried out one after the other, so
+ *     two NPCs going for the same item can never both get it.
+ * 
+ * The time taken by each tick is recorded.
+ * 
+ * @author Alejandro Olea
+ * @version 2025.04.02
+ */
+
+public class NpcSimulation
+{
+    // Below this many NPCs planning on one thread is faster
+    private static final int PARALLEL_THRESHOLD = 1024;
+
+    private Npc[] npcs;
+    private int npcCount;
+    private int partitions;
+
+    // Tick duration metrics, in nanoseconds
+    private long tickCount;
+    private long lastTickNanos;
+    private long totalTickNanos;
+    private long maxTickNanos;
+
+    /**
+     * Create an empty simulation using one partition per processor.
+     */
+    public NpcSimulation()
+    {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create an empty simulation.
+     * @param partitions The number of partitions to plan in parallel.
+     */
+    public NpcSimulation(int partitions)
+    {
+        this.npcs = new Npc[16];
+        this.npcCount = 0;
+        this.partitions = Math.max(1, partitions);
+    }
+
+    /**
+     * Add an NPC to the world.
+     * @param npc The NPC to add.
+     */
+    public void addNpc(Npc npc)
+    {
+        if (npcCount == npcs.length) {
+            npcs = Arrays.copyOf(npcs, npcs.length * 2);
+        }
+        npcs[npcCount] = npc;
+        npcCount++;
+    }
+
+    /**
+     * @return The number of NPCs in the simulation.
+     */
+    public int getNpcCount()
+    {
+        return npcCount;
+    }
+
+    /**
+     * Move every NPC forward by one tick.
+     * @param playerRoom The room the player is in.
+     * @return Messages about what the player saw happen, in order.
+     */
+    public List<String> tick(Room playerRoom)
+    {
+        long start = System.nanoTime();
+
+        if (npcCount < PARALLEL_THRESHOLD || partitions == 1) {
+            planPartition(0, npcCount, ThreadLocalRandom.current(), playerRoom);
+        } else {
+            int partitionSize = (npcCount + partitions - 1) / partitions;
+            IntStream.range(0, partitions).parallel().forEach(partition -> {
+                int from = partition * partitionSize;
+                int to = Math.min(npcCount, from + partitionSize);
+                planPartition(from, to, ThreadLocalRandom.current(), playerRoom);
+            });
+        }
+
+        List<String> messages = new ArrayList<>();
+        for (int i = 0; i < npcCount; i++) {
+            npcs[i].applyAction(playerRoom, messages);
+        }
+
+        lastTickNanos = System.nanoTime() - start;
+        totalTickNanos += lastTickNanos;
+        maxTickNanos = Math.max(maxTickNanos, lastTickNanos);
+        tickCount++;
+        return messages;
+    }
+
+    /**
+     * Plan the actions of the NPCs between two indexes.
+     * @param from The first index (inclusive).
+     * @param to The last index (exclusive).
+     * @param random The source of randomness for this thread.
+     * @param playerRoom The room the player is in.
+     */
+    private void planPartition(int from, int to, Random random, Room playerRoom)
+    {
+        for (int i = from; i < to; i++) {
+            npcs[i].planAction(random, playerRoom);
+        }
+    }
+
+    /**
+     * @return The number of ticks run so far.
+     */
+    public long getTickCount()
+    {
+        return tickCount;
+    }
+
+    /**
+     * @return The duration of the last tick in nanoseconds.
+     */
+    public long getLastTickNanos()
+    {
+        return lastTickNanos;
+    }
+
+    /**
+     * @return The average tick duration in nanoseconds.
+     */
+    public long getAverageTickNanos()
+    {
+        if (tickCount == 0) {
+            return 0;
+        }
+        return totalTickNanos / tickCount;
+    }
+
+    /**
+     * @return The longest tick duration in nanoseconds.
+     */
+    public long getMaxTickNanos()
+    {
+        return maxTickNanos;
+    }
+}
@@ -1,13 +1,14 @@
-import java.util.Scanner;
+import java.io.InputStream;
 
 /**
  * This class is part of the "World of Zuul" application. 
  * "World of Zuul" is a very simple, text based adventure game.  
  * 
  * This parser reads user input and tries to interpret it as an "Adventure"
- * command. Every time it is called it reads a line from the terminal and
- * tries to interpret the line as a two-word command. It returns the command
- * as an object of class Command.
+ * command. Every time it is called it takes a line typed at the terminal
+ * (see class InputQueue), waiting for one if necessary, and
+ * tries to interpret the line using the command grammar (see class
+ * CommandGrammar). It returns the command as an object of class Command.
  *
  * The parser has a set of known command words. It checks user input against
  * the known commands, and if the input is not one of the known commands, it
@@ -19,41 +20,86 @@ import java.util.Scanner;
 public class Parser 
 {
     private CommandWords commands;  // holds all valid command words
-    private Scanner reader;         // source of command input
+    private CommandGrammar grammar; // recognises complete commands
+    private InputQueue reader;      // source of command input
+
+    // How many lines the player can type ahead of the game
+    private static final int TYPE_AHEAD = 16;
 
     /**
      * Create a parser to read from the terminal window.
      */
     public Parser() 
+    {
+        this(System.in);
+    }
+
+    /**
+     * Create a parser to read from an input stream.
+     * @param in The stream to read commands from.
+     */
+    public Parser(InputStream in) 
     {
         commands = new CommandWords();
-        reader = new Scanner(System.in);
+        grammar = new CommandGrammar(commands);
+        reader = new InputQueue(in, TYPE_AHEAD);
     }
 
     /**
-     * @return The next command from the user.
+     * @return The next command from the user. If the input has ended,
+     *         or the thread waiting for it is interrupted, this is a
+     *         "quit" command.
      */
     public Command getCommand() 
     {
-        String inputLine;   // will hold the full input line
-        String word1 = null;
-        String word2 = null;
+        showPrompt();
 
-        System.out.print("> ");     // print prompt
-
-        inputLine = reader.nextLine();
+        Command command = pollCommand(Long.MAX_VALUE);
+        while (command == null) {
+            if (Thread.currentThread().isInterrupted()) {
+                // Nobody will be able to type anything any more
+                return new Command(CommandWord.QUIT, null);
+            }
+            command = pollCommand(Long.MAX_VALUE);
+        }
+        return command;
+    }
 
-        // Find up to two words on the line.
-        Scanner tokenizer = new Scanner(inputLine);
-        if(tokenizer.hasNext()) {
-            word1 = tokenizer.next();      // get first word
-            if(tokenizer.hasNext()) {
-                word2 = tokenizer.next();      // get second word
-                // note: we just ignore the rest of the input line.
+    /**
+     * Wait a limited time for the next command from the user. No prompt
+     * is printed.
+     * @param timeout How long to wait, in milliseconds.
+     * @return The next command, or null if none came in time. If the
+     *         input has ended, this is a "quit" command.
+     */
+    public Command pollCommand(long timeout)
+    {
+        String inputLine = reader.poll(timeout);   // will hold the full input line
+        if (inputLine == null) {
+            if (reader.hasEnded()) {
+                return new Command(CommandWord.QUIT, null);
             }
+            return null;
         }
+        return parse(inputLine);
+    }
+
+    /**
+     * Print the prompt for the next command.
+     */
+    public void showPrompt()
+    {
+        System.out.print("> ");     // print prompt
+    }
 
-        return new Command(commands.getCommandWord(word1), word2);
+    /**
+     * Interpret a line of input as a command.
+     * @param inputLine The line to interpret.
+     * @return The command on the line.
+     */
+    public Command parse(String inputLine)
+    {
+        return grammar.parse(inputLine);
     }
 
     /**
@@ -0,0 +1,67 @@
+import java.util.Scanner;
+
+/**
+ * This class is part of the "World of Zuul" application. 
+ * "World of Zuul" is a very simple, text based adventure game.
+ * 
+ * A small benchmark comparing the command grammar with the original
+ * two-word parser, which split each line with a Scanner. Both parse the
+ * same mix of common commands; run main and compare the times per line.
+ * The first rounds include JIT warm-up, so look at the later ones.
+ * 
+ * @author Alejandro Olea
+ * @version 2025.04.02
+ */
+
+public class ParserBenchmark
+{
+    private static final String[] LINES = {
+        "go north", "take map", "look", "drop the key", "where wallet"
+    };
+    private static final int ROUNDS = 5;
+    private static final int LINES_PER_ROUND = 300_000;
+
+    /**
+     * Run the benchmark and print the time per line for both parsers.
+     * @param args Command-line arguments (not used).
+     */
+    public static void main(String[] args)
+    {
+        CommandWords commands = new CommandWords();
+        CommandGrammar grammar = new CommandGrammar(commands);
+        int check = 0;   // keeps the JIT from throwing the work away
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < LINES_PER_ROUND; i++) {
+                check += parseTwoWords(commands, LINES[i % LINES.length]).hashCode() & 1;
+            }
+            long middle = System.nanoTime();
+            for (int i = 0; i < LINES_PER_ROUND; i++) {
+                check += grammar.parse(LINES[i % LINES.length]).hashCode() & 1;
+            }
+            long end = System.nanoTime();
+            System.out.println("Round " + round + ": two-word Scanner "
+                               + (middle - start) / LINES_PER_ROUND + " ns/line, grammar "
+                               + (end - middle) / LINES_PER_ROUND + " ns/line");
+        }
+        System.out.println("(check " + check + ")");
+    }
+
+    /**
+     * Parse a line the way the original two-word parser did.
+     */
+    private static Command parseTwoWords(CommandWords commands, String inputLine)
+    {
+        String word1 = null;
+        String word2 = null;
+        Scanner tokenizer = new Scanner(inputLine);
+        if(tokenizer.hasNext()) {
+            word1 = tokenizer.next();
+            if(tokenizer.hasNext()) {
+                word2 = tokenizer.next();
+            }
+        }
+        return new Command(commands.getCommandWord(word1), word2);
+    }
+}
@@ -0,0 +1,152 @@
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * This class is part of the "World of Zuul" application. 
+ * "World of Zuul" is a very simple, text based adventure game.
+ * 
+ * A PersistentList is a list that never changes. Adding or removing an
+ * element gives a new list, which shares everything it can with the old
+ * one. Keeping an old version around is therefore free, which is what
+ * makes undo cheap (see class UndoLog).
+ * 
+ * The elements are stored newest first as a chain of nodes, so adding to
+ * the end and removing the last element take constant time. Removing
+ * another element copies only the elements added after it. Indexing and
+ * iterating still go from the oldest element to the newest.
+ * 
+ * @author Alejandro Olea
+ * @version 2025.04.02
+ */
+
+public class PersistentList<E> extends AbstractList<E>
+{
+    private static final PersistentList<Object> EMPTY = new PersistentList<>(null, null, 0);
+
+    private E last;                   // the newest element
+    private PersistentList<E> rest;   // all the older elements
+    private int size;
+
+    /**
+     * Create a list node. Use empty() and plus() to build lists.
+     */
+    private PersistentList(E last, PersistentList<E> rest, int size)
+    {
+        this.last = last;
+        this.rest = rest;
+        this.size = size;
+    }
+
+    /**
+     * @return The empty list.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentList<E> empty()
+    {
+        return (PersistentList<E>) EMPTY;
+    }
+
+    /**
+     * @param element The element to add.
+     * @return A list with the element added at the end.
+     */
+    public PersistentList<E> plus(E element)
+    {
+        return new PersistentList<>(element, this, size + 1);
+    }
+
+    /**
+     * @param element The element to remove.
+     * @return A list without the newest occurrence of the element, or this
+     *         list if the element is not in it.
+     */
+    public PersistentList<E> minus(Object element)
+    {
+        // Find the element, remembering the newer ones that must be copied
+        List<E> newer = new ArrayList<>();
+        PersistentList<E> node = this;
+        while (node.size > 0 && !Objects.equals(node.last, element)) {
+            newer.add(node.last);
+            node = node.rest;
+        }
+        if (node.size == 0) {
+            return this;
+        }
+        PersistentList<E> result = node.rest;
+        for (int i = newer.size() - 1; i >= 0; i--) {
+            result = result.plus(newer.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * @return The newest element.
+     * @throws NoSuchElementException if the list is empty.
+     */
+    public E last()
+    {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return last;
+    }
+
+    /**
+     * @return A list without the newest element.
+     * @throws NoSuchElementException if the list is empty.
+     */
+    public PersistentList<E> butLast()
+    {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return rest;
+    }
+
+    /**
+     * @return The number of elements in the list.
+     */
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @param index The position of the element, 0 being the oldest.
+     * @return The element at that position.
+     */
+    @Override
+    public E get(int index)
+    {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        PersistentList<E> node = this;
+        for (int i = size - 1; i > index; i--) {
+            node = node.rest;
+        }
+        return node.last;
+    }
+
+    /**
+     * @return An iterator from the oldest element to the newest.
+     */
+    @Override
+    public Iterator<E> iterator()
+    {
+        @SuppressWarnings("unchecked")
+        E[] elements = (E[]) new Object[size];
+        PersistentList<E> node = this;
+        for (int i = size - 1; i >= 0; i--) {
+            elements[i] = node.last;
+            node = node.rest;
+        }
+        return Arrays.asList(elements).iterator();
+    }
+}
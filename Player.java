@@ -1,6 +1,5 @@
-import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Stack;
 
 /**
  * Class Player - A player object that stores the current and previous room of the player along with their inventory of items.
@@ -9,21 +8,30 @@ import java.util.Stack;
  * @version 2025.04.02
  */
 
-public class Player
+public class Player implements ItemHolder
 {
     private Room currentRoom;  // The room the player is currently in
-    private Stack<Room> roomHistory;  // Stack storing room history
-    private List<Item> inventory;  // List of items the player is carrying
+    private PersistentList<Room> roomHistory;  // Stack storing room history
+    private PersistentList<Item> inventory;  // List of items the player is carrying
+    private ItemIndex itemIndex;  // world-wide index of where items are
+    private UndoLog undoLog;  // records changes to the player
+    private BitSet visitedRooms;  // the ids of every room the player has been in
 
     /**
      * Create a player with an initial room.
      * @param startingRoom The room the player starts in.
+     * @param itemIndex The index to record the player's items in.
+     * @param undoLog The log to record changes to the player in.
      */
-    public Player(Room startingRoom)
+    public Player(Room startingRoom, ItemIndex itemIndex, UndoLog undoLog)
     {
         this.currentRoom = startingRoom;
-        this.roomHistory = new Stack<>();  // No previous room at the start
-        this.inventory = new ArrayList<>();
+        this.roomHistory = PersistentList.empty();  // No previous room at the start
+        this.inventory = PersistentList.empty();
+        this.itemIndex = itemIndex;
+        this.undoLog = undoLog;
+        this.visitedRooms = new BitSet();
+        visit(startingRoom);
     }
 
     /**
@@ -41,7 +49,8 @@ public class Player
      */
     public void setCurrentRoom(Room room)
     {
-        this.currentRoom = room;
+        changeState(room, roomHistory, inventory);
+        visit(room);
     }
     
     /**
@@ -49,24 +58,25 @@ public class Player
      */
     public void moveToRoom(Room newRoom)
     {
+        PersistentList<Room> newHistory = roomHistory;
         if (this.currentRoom != null) {
-            this.roomHistory.push(this.currentRoom);  // Push current room to history
+            newHistory = roomHistory.plus(this.currentRoom);  // Push current room to history
         }
-        this.currentRoom = newRoom;
+        changeState(newRoom, newHistory, inventory);
+        visit(newRoom);
     }
 
     /**
      * Allow player to go back to the previous room
+     * @return true if there was a previous room to go back to.
      */
-    public void goBack()
+    public boolean goBack()
     {
         if (roomHistory.isEmpty()) {
-            System.out.println("There is no room to go back to\n");
-            System.out.println(currentRoom.getLongDescription());
-            return;
+            return false;
         }
-        this.currentRoom = roomHistory.pop();
-        System.out.println("You go back" + currentRoom.getLongDescription().substring(7));  // Skip "You are "
+        changeState(roomHistory.last(), roomHistory.butLast(), inventory);
+        return true;
     }
 
     /**
@@ -75,7 +85,8 @@ public class Player
      */
     public void takeItem(Item item)
     {
-        inventory.add(item);
+        changeState(currentRoom, roomHistory, inventory.plus(item));
+        itemIndex.put(item, this);
     }
 
     /**
@@ -85,7 +96,13 @@ public class Player
      */
     public boolean dropItem(Item item)
     {
-        return inventory.remove(item);
+        PersistentList<Item> remaining = inventory.minus(item);
+        if (remaining == inventory) {
+            return false;
+        }
+        changeState(currentRoom, roomHistory, remaining);
+        itemIndex.remove(item, this);
+        return true;
     }
 
     /**
@@ -96,4 +113,74 @@ public class Player
     {
         return inventory;
     }
+
+    /**
+     * Check whether the player has ever been in a room.
+     * @param room The room to check.
+     * @return true if the player has been there.
+     */
+    public boolean hasVisited(Room room)
+    {
+        return room.getId() >= 0 && visitedRooms.get(room.getId());
+    }
+
+    /**
+     * Get the rooms the player has been in, as a set of room ids. The
+     * player remembers rooms even when moves are undone.
+     * @return The ids of the visited rooms.
+     */
+    public BitSet getVisitedRooms()
+    {
+        return visitedRooms;
+    }
+
+    /**
+     * Remember that the player has been in a room.
+     */
+    private void visit(Room room)
+    {
+        if (room != null && room.getId() >= 0) {
+            visitedRooms.set(room.getId());
+        }
+    }
+
+    /**
+     * Change the state of the player, recording the change so that it
+     * can be undone.
+     */
+    private void changeState(Room newRoom, PersistentList<Room> newHistory,
+                             PersistentList<Item> newInventory)
+    {
+        Room oldRoom = currentRoom;
+        PersistentList<Room> oldHistory = roomHistory;
+        PersistentList<Item> oldInventory = inventory;
+        currentRoom = newRoom;
+        roomHistory = newHistory;
+        inventory = newInventory;
+        undoLog.record(() -> restoreState(oldRoom, oldHistory, oldInventory),
+                       () -> restoreState(newRoom, newHistory, newInventory));
+    }
+
+    /**
+     * Put back an earlier or later state, on undo or redo.
+     */
+    private void restoreState(Room room, PersistentList<Room> history,
+                              PersistentList<Item> items)
+    {
+        currentRoom = room;
+        roomHistory = history;
+        inventory = items;
+        for (Item item : items) {
+            itemIndex.put(item, this);
+        }
+    }
+
+    /**
+     * @return Where an item held by the player is.
+     */
+    @Override
+    public String getHolderDescription()
+    {
+        return "carried by you";
+    }
 }
@@ -0,0 +1,79 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class is part of the "World of Zuul" application. 
+ * "World of Zuul" is a very simple, text based adventure game.
+ * 
+ * The response writer sends responses to the player as UTF-8 bytes.
+ * Fixed messages, item names and room descriptions are encoded once
+ * and kept as byte buffers; a response is written by gathering those
+ * buffers into the output channel, so nothing is encoded again.
+ * 
+ * The buffers are shared, so they are never written directly: the
+ * writer uses a duplicate of each one, which shares the bytes but has
+ * its own position.
+ * 
+ * @author Alejandro Olea
+ * @version 2025.04.02
+ */
+
+public class ResponseWriter
+{
+    private WritableByteChannel channel;
+
+    /**
+     * Create a writer sending responses to a channel.
+     * @param channel The channel to write to.
+     */
+    public ResponseWriter(WritableByteChannel channel)
+    {
+        this.channel = channel;
+    }
+
+    /**
+     * Encode a piece of text once, so that it can be written many times.
+     * @param text The text to encode.
+     * @return A read-only buffer holding the UTF-8 bytes of the text.
+     */
+    public static ByteBuffer encode(String text)
+    {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+    }
+
+    /**
+     * Write the parts of a response, one after the other.
+     * @param parts The pre-encoded parts of the response.
+     */
+    public void write(ByteBuffer... parts)
+    {
+        ByteBuffer[] views = new ByteBuffer[parts.length];
+        long remaining = 0;
+        for (int i = 0; i < parts.length; i++) {
+            views[i] = parts[i].duplicate();
+            remaining += views[i].remaining();
+        }
+
+        try {
+            if (channel instanceof GatheringByteChannel) {
+                GatheringByteChannel gathering = (GatheringByteChannel) channel;
+                while (remaining > 0) {
+                    remaining -= gathering.write(views);
+                }
+            } else {
+                for (ByteBuffer view : views) {
+                    while (view.hasRemaining()) {
+                        channel.write(view);
+                    }
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,8 +1,10 @@
+import java.nio.ByteBuffer;
+import java.util.Collection;
 import java.util.Set;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 /**
  * Class Room - a room in an adventure game.
@@ -19,23 +21,59 @@ import java.util.List;
  * @version 2025.04.02
  */
 
-public class Room 
+public class Room implements ItemHolder
 {
+    // The usual opening of the long description, encoded once
+    private static final ByteBuffer YOU_ARE = ResponseWriter.encode("You are ");
+
+    private int id;  // the room's number on the map, -1 until laid out
     private String description;
     private HashMap<String, Room> exits;        // stores exits of this room.
-    private List<Item> items;  // List of items to store multiple in one room
+    private PersistentList<Item> items;  // List of items to store multiple in one room
+    private Room[] neighbors;  // exits as an array, for fast random choice
+    private ItemIndex itemIndex;  // world-wide index of where items are
+    private UndoLog undoLog;      // records changes to the items
+    // The long description encoded as UTF-8, in two parts after the
+    // opening "You are ": the description and exits, and the items. Each is
+    // null until needed, and reset to null when it goes out of date.
+    private ByteBuffer encodedHeader;
+    private ByteBuffer encodedItems;
 
     /**
      * Create a room described "description". Initially, it has
      * no exits. "description" is something like "a kitchen" or
      * "an open court yard".
      * @param description The room's description.
+     * @param itemIndex The index to record the room's items in.
+     * @param undoLog The log to record changes to the room's items in.
      */
-    public Room(String description) 
+    public Room(String description, ItemIndex itemIndex, UndoLog undoLog) 
     {
+        this.id = -1;
         this.description = description;
+        this.itemIndex = itemIndex;
+        this.undoLog = undoLog;
         exits = new HashMap<>();
-        items = new ArrayList<>(); // initialize as ArrayList
+        items = PersistentList.empty();
+        neighbors = new Room[0];
+    }
+
+    /**
+     * Set the room's number on the map. Rooms are numbered 0, 1, 2, ...
+     * by the map layout (see class MapLayout).
+     * @param id The room's number.
+     */
+    public void setId(int id)
+    {
+        this.id = id;
+    }
+    
+    /**
+     * @return The room's number on the map, or -1 if it is not on the map.
+     */
+    public int getId()
+    {
+        return id;
     }
 
     /**
@@ -46,6 +84,8 @@ public class Room
     public void setExit(String direction, Room neighbor) 
     {
         exits.put(direction, neighbor);
+        neighbors = exits.values().toArray(new Room[0]);
+        encodedHeader = null;
     }
     
     /**
@@ -54,7 +94,8 @@ public class Room
      */
     public void addItem(Item item)
     {
-        items.add(item);  // Add item to list
+        changeItems(items.plus(item));  // Add item to list
+        itemIndex.put(item, this);
     }
     
     /**
@@ -66,13 +107,77 @@ public class Room
     {
         for (Item item : items) {
             if (item.getName().equals(itemName)) {
-                items.remove(item);  // Remove the first matching item
+                removeItem(item);  // Remove the first matching item
                 return item;
             }
         }
         return null;  // Not found
     }
     
+    /**
+     * Removes a specific item from the room.
+     * @param item The item to remove.
+     * @return true if the item was in the room and has been removed.
+     */
+    public boolean removeItem(Item item)
+    {
+        PersistentList<Item> remaining = items.minus(item);
+        if (remaining == items) {
+            return false;
+        }
+        changeItems(remaining);
+        itemIndex.remove(item, this);
+        return true;
+    }
+    
+    /**
+     * Replace the items in the room, recording the change so that it
+     * can be undone.
+     * @param newItems The new list of items.
+     */
+    private void changeItems(PersistentList<Item> newItems)
+    {
+        PersistentList<Item> oldItems = items;
+        items = newItems;
+        encodedItems = null;
+        undoLog.record(() -> restoreItems(oldItems), () -> restoreItems(newItems));
+    }
+    
+    /**
+     * Put back an earlier or later list of items, on undo or redo.
+     * @param restoredItems The list of items to put back.
+     */
+    private void restoreItems(PersistentList<Item> restoredItems)
+    {
+        items = restoredItems;
+        encodedItems = null;
+        for (Item item : restoredItems) {
+            itemIndex.put(item, this);
+        }
+    }
+    
+    /**
+     * Get a list of all items in the room.
+     * @return List of items.
+     */
+    public List<Item> getItems()
+    {
+        return items;
+    }
+    
+    /**
+     * Pick one of the items in the room at random.
+     * @param random The source of randomness.
+     * @return An item in this room, or null if the room is empty.
+     */
+    public Item getRandomItem(Random random)
+    {
+        if (items.isEmpty()) {
+            return null;
+        }
+        return items.get(random.nextInt(items.size()));
+    }
+    
     /**
      * Get a description of all items in the room.
      * @return A string listing all items in the room.
@@ -98,6 +203,15 @@ public class Room
         return description;
     }
     
+    /**
+     * @return Where an item in this room is, for example "in the campus pub".
+     */
+    @Override
+    public String getHolderDescription()
+    {
+        return description;
+    }
+    
     /**
      * Return a description of the room in the form:
      *     You are in the kitchen.
@@ -110,6 +224,44 @@ public class Room
         return "You are " + description + ".\n" + getExitString() + "\n" + "\n" + inspectItems();
     }
 
+    /**
+     * Return the long description followed by a newline, encoded as UTF-8.
+     * The encoding is only redone after the exits or items change.
+     * @return The parts of the description, to be written in order.
+     */
+    public ByteBuffer[] getEncodedLongDescription()
+    {
+        return getEncodedLongDescription(YOU_ARE);
+    }
+    
+    /**
+     * Return the long description followed by a newline, encoded as UTF-8,
+     * with a different opening instead of "You are ", for example
+     * "You go back ".
+     * @param opening The encoded opening words.
+     * @return The parts of the description, to be written in order.
+     */
+    public ByteBuffer[] getEncodedLongDescription(ByteBuffer opening)
+    {
+        if (encodedHeader == null) {
+            encodedHeader = ResponseWriter.encode(description + ".\n" + getExitString() + "\n" + "\n");
+        }
+        return new ByteBuffer[] { opening, encodedHeader, getEncodedItems() };
+    }
+    
+    /**
+     * Return the description of the items followed by a newline,
+     * encoded as UTF-8.
+     * @return The items in the room, as listed by inspectItems.
+     */
+    public ByteBuffer getEncodedItems()
+    {
+        if (encodedItems == null) {
+            encodedItems = ResponseWriter.encode(inspectItems() + "\n");
+        }
+        return encodedItems;
+    }
+
     /**
      * Return a string describing the room's exits, for example
      * "Exits: north west".
@@ -135,5 +287,26 @@ public class Room
     {
         return exits.get(direction);
     }
+    
+    /**
+     * @return All rooms reachable through this room's exits.
+     */
+    public Collection<Room> getExitRooms()
+    {
+        return exits.values();
+    }
+    
+    /**
+     * Pick one of the neighbouring rooms at random.
+     * @param random The source of randomness.
+     * @return A room reachable from this one, or null if there are no exits.
+     */
+    public Room getRandomExit(Random random)
+    {
+        if (neighbors.length == 0) {
+            return null;
+        }
+        return neighbors[random.nextInt(neighbors.length)];
+    }
 }
 
@@ -0,0 +1,74 @@
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is part of the "World of Zuul" application. 
+ * "World of Zuul" is a very simple, text based adventure game.
+ * 
+ * A startup profile records how long each phase of starting the game
+ * takes: from the JVM starting up, through building the world, to the
+ * first command the player types.
+ * 
+ * @author Alejandro Olea
+ * @version 2025.04.02
+ */
+
+public class StartupProfile
+{
+    private long jvmMillis;        // from the JVM starting to this profile
+    private List<String> phases;
+    private List<Long> durations;  // nanoseconds, one per phase
+    private long lastMark;
+
+    /**
+     * Start a profile. Phases are timed from this moment on.
+     */
+    public StartupProfile()
+    {
+        jvmMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        phases = new ArrayList<>();
+        durations = new ArrayList<>();
+        lastMark = System.nanoTime();
+    }
+
+    /**
+     * Record that a phase has finished. It took the time since the
+     * previous phase finished (or since the profile started).
+     * @param phase The name of the phase.
+     */
+    public void mark(String phase)
+    {
+        long now = System.nanoTime();
+        phases.add(phase);
+        durations.add(now - lastMark);
+        lastMark = now;
+    }
+
+    /**
+     * Record how long it took to handle one command.
+     * @param description What the command was, for example "first command".
+     * @param nanos How long it took, in nanoseconds.
+     * @param out Where to print the time.
+     */
+    public void reportCommand(String description, long nanos, PrintStream out)
+    {
+        out.printf("Startup: %-20s %9.3f ms%n", description, nanos / 1e6);
+    }
+
+    /**
+     * Print the time taken by every phase so far.
+     * @param out Where to print the report.
+     */
+    public void report(PrintStream out)
+    {
+        long total = 0;
+        out.printf("Startup: %-20s %9d ms%n", "JVM start", jvmMillis);
+        for (int i = 0; i < phases.size(); i++) {
+            out.printf("Startup: %-20s %9.3f ms%n", phases.get(i), durations.get(i) / 1e6);
+            total += durations.get(i);
+        }
+        out.printf("Startup: %-20s %9.3f ms%n", "total after JVM", total / 1e6);
+    }
+}
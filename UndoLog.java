@@ -0,0 +1,292 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * This class is part of the "World of Zuul" application. 
+ * "World of Zuul" is a very simple, text based adventure game.
+ * 
+ * The undo log records every change to the state of the world, so that
+ * changes can be undone and redone. Rooms, the player and NPCs keep
+ * their state in persistent lists (see class PersistentList), so a
+ * change is recorded by keeping the old and new versions: nothing is
+ * copied. Taking a snapshot is just remembering a position in the log,
+ * and rolling back costs only as much as what changed in between.
+ * 
+ * Changes are grouped into steps, one per player action. Only the most
+ * recent steps and changes are kept, except that nothing a snapshot
+ * needs is thrown away until the snapshot is released. Recording a change
+ * after an undo starts a new branch of history and forgets the old one;
+ * snapshots taken on the forgotten part can no longer be rolled back to.
+ * 
+ * NPCs walking around is not recorded (it would fill the log), so undo,
+ * redo and rollback leave the NPCs where they are.
+ * 
+ * @author Alejandro Olea
+ * @version 2025.04.02
+ */
+
+public class UndoLog
+{
+    // The number of steps that can be undone
+    private static final int MAX_STEPS = 100;
+    // The number of changes kept, however few steps they make up
+    private static final int MAX_CHANGES = 1 << 20;
+
+    private List<Change> changes;
+    private List<Integer> steps;   // the index in changes where each step starts
+    private int position;          // the number of changes currently applied
+    private long discarded;        // the number of old changes thrown away
+    private boolean stepStarted;   // true if the next change starts a new step
+    // How many snapshots are held at each position, to keep them from
+    // being thrown away
+    private TreeMap<Long, Integer> snapshots;
+
+    /**
+     * Create an empty undo log.
+     */
+    public UndoLog()
+    {
+        changes = new ArrayList<>();
+        steps = new ArrayList<>();
+        position = 0;
+        discarded = 0;
+        snapshots = new TreeMap<>();
+    }
+
+    /**
+     * Record a change that has just been made. Any changes that were
+     * undone and not redone are forgotten.
+     * @param undo Puts back the state before the change.
+     * @param redo Puts back the state after the change.
+     */
+    public void record(Runnable undo, Runnable redo)
+    {
+        discardRedo();
+        if (stepStarted) {
+            stepStarted = false;
+            steps.add(position);
+        }
+        changes.add(new Change(undo, redo));
+        position++;
+        trim();
+    }
+
+    /**
+     * Throw away the oldest steps and changes while there are too many,
+     * unless a snapshot still needs them.
+     */
+    private void trim()
+    {
+        while (steps.size() > MAX_STEPS) {
+            if (!discardOldest(steps.get(1))) {
+                break;
+            }
+        }
+        if (changes.size() > MAX_CHANGES) {
+            discardOldest(MAX_CHANGES / 4);
+        }
+    }
+
+    /**
+     * Start a new step. If a change is recorded before endStep is called,
+     * it begins a step that is undone as a whole; later changes join that
+     * step until the next one begins. If nothing changes, no step is made
+     * and nothing that could be redone is forgotten.
+     */
+    public void startStep()
+    {
+        stepStarted = true;
+    }
+
+    /**
+     * End the chance for a new step to begin.
+     */
+    public void endStep()
+    {
+        stepStarted = false;
+    }
+
+    /**
+     * @return true if there are undone changes that can be redone.
+     */
+    public boolean canRedo()
+    {
+        return position < changes.size();
+    }
+
+    /**
+     * Forget the changes that were undone and not redone.
+     */
+    private void discardRedo()
+    {
+        if (position == changes.size()) {
+            return;
+        }
+        changes.subList(position, changes.size()).clear();
+        while (!steps.isEmpty() && steps.get(steps.size() - 1) >= position) {
+            steps.remove(steps.size() - 1);
+        }
+    }
+
+    /**
+     * Throw away the oldest changes. They can no longer be undone.
+     * Nothing is thrown away if a snapshot needs any of them.
+     * @param count The number of changes to throw away.
+     * @return true if the changes were thrown away.
+     */
+    private boolean discardOldest(int count)
+    {
+        // A snapshot needs the change just before it to check its branch
+        if (!snapshots.isEmpty() && discarded + count >= snapshots.firstKey()) {
+            return false;
+        }
+        changes.subList(0, count).clear();
+        while (!steps.isEmpty() && steps.get(0) < count) {
+            steps.remove(0);
+        }
+        for (int i = 0; i < steps.size(); i++) {
+            steps.set(i, steps.get(i) - count);
+        }
+        position -= count;
+        discarded += count;
+        return true;
+    }
+
+    /**
+     * Undo the most recent step.
+     * @return true if there was a step to undo.
+     */
+    public boolean undo()
+    {
+        for (int i = steps.size() - 1; i >= 0; i--) {
+            if (steps.get(i) < position) {
+                rollbackTo(steps.get(i));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Redo the most recently undone step.
+     * @return true if there was a step to redo.
+     */
+    public boolean redo()
+    {
+        if (position == changes.size()) {
+            return false;
+        }
+        int target = changes.size();
+        for (int step : steps) {
+            if (step > position) {
+                target = step;
+                break;
+            }
+        }
+        while (position < target) {
+            changes.get(position).redo.run();
+            position++;
+        }
+        return true;
+    }
+
+    /**
+     * Take a snapshot of the world. This takes constant time. The changes
+     * since the snapshot are kept until it is released, so a snapshot
+     * should be released once it is no longer needed.
+     * @return The snapshot, to be passed to rollback and release.
+     */
+    public Snapshot snapshot()
+    {
+        long at = discarded + position;
+        snapshots.merge(at, 1, Integer::sum);
+        return new Snapshot(at, position == 0 ? null : changes.get(position - 1));
+    }
+
+    /**
+     * Put the world back the way it was when a snapshot was taken. This
+     * works backwards (undoing changes) as well as forwards (redoing
+     * changes that were undone). The snapshot can be rolled back to
+     * again later.
+     * @param snapshot A snapshot taken with the snapshot method.
+     * @throws IllegalStateException if the snapshot has been released, or
+     *         was taken on a branch of history that has been forgotten.
+     */
+    public void rollback(Snapshot snapshot)
+    {
+        if (snapshot.released) {
+            throw new IllegalStateException("Cannot roll back to a released snapshot");
+        }
+        int target = (int) (snapshot.position - discarded);
+        // The snapshot is on this branch if the change just before it
+        // is still the same one
+        if (target > changes.size()
+                || (target == 0 ? null : changes.get(target - 1)) != snapshot.last) {
+            throw new IllegalStateException("Cannot roll back to a snapshot from a forgotten branch");
+        }
+        rollbackTo(target);
+        while (position < target) {
+            changes.get(position).redo.run();
+            position++;
+        }
+    }
+
+    /**
+     * Release a snapshot, so that the changes it kept can be thrown away.
+     * Releasing a snapshot twice does nothing.
+     * @param snapshot A snapshot taken with the snapshot method.
+     */
+    public void release(Snapshot snapshot)
+    {
+        if (snapshot.released) {
+            return;
+        }
+        snapshot.released = true;
+        snapshots.computeIfPresent(snapshot.position, (at, count) -> count == 1 ? null : count - 1);
+        trim();
+    }
+
+    /**
+     * Undo changes until only the given number are applied.
+     */
+    private void rollbackTo(int target)
+    {
+        while (position > target) {
+            position--;
+            changes.get(position).undo.run();
+        }
+    }
+
+    /**
+     * A snapshot of the world: a position in the log, and the change just
+     * before it to tell which branch of history it was taken on.
+     */
+    public static class Snapshot
+    {
+        private long position;
+        private Change last;
+        private boolean released;
+
+        private Snapshot(long position, Change last)
+        {
+            this.position = position;
+            this.last = last;
+        }
+    }
+
+    /**
+     * One recorded change.
+     */
+    private static class Change
+    {
+        private Runnable undo;
+        private Runnable redo;
+
+        Change(Runnable undo, Runnable redo)
+        {
+            this.undo = undo;
+            this.redo = redo;
+        }
+    }
+}
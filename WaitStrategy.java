@@ -0,0 +1,38 @@
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How a thread waits on the game event bus when there is nothing
+ * for it to do yet. Spinning reacts fastest but keeps a processor
+ * busy; sleeping reacts slowest but costs almost nothing. Only spin
+ * when every consumer thread can have a processor of its own.
+ * 
+ * @author Alejandro Olea
+ * @version 2025.04.02
+ */
+public enum WaitStrategy
+{
+    BUSY_SPIN, YIELDING, SLEEPING;
+
+    // How long a sleeping thread waits before looking again
+    private static final long SLEEP_NANOS = 100_000;
+
+    /**
+     * Wait a little before checking again.
+     */
+    public void idle()
+    {
+        switch (this) {
+            case BUSY_SPIN:
+                Thread.onSpinWait();
+                break;
+
+            case YIELDING:
+                Thread.yield();
+                break;
+
+            case SLEEPING:
+                LockSupport.parkNanos(SLEEP_NANOS);
+                break;
+        }
+    }
+}